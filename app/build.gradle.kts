@@ -29,6 +29,14 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests.all {
+            // Forward fuzz settings, e.g. ./gradlew test -Dfuzz.boards=1000000
+            listOf("fuzz.boards", "fuzz.seed").forEach { key ->
+                System.getProperty(key)?.let { value -> it.systemProperty(key, value) }
+            }
+        }
+    }
 }
 
 dependencies {
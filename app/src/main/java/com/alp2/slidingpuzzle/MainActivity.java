@@ -30,6 +30,8 @@ public class MainActivity extends AppCompatActivity {
     private int moveCount = 0;
     private boolean isSolving = false;
     private Handler handler = new Handler();
+    private final SolverExecutor solverExecutor = new SolverExecutor(
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)), 8);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -127,6 +129,8 @@ public class MainActivity extends AppCompatActivity {
             emptyPosition = position;
             moveCount++;
             updateMoveCounter();
+            // Any queued solve is for the previous board now
+            solverExecutor.cancelStale();
 
             // Check if puzzle is solved
             if (isPuzzleSolved()) {
@@ -141,51 +145,65 @@ public class MainActivity extends AppCompatActivity {
         btnSolve.setEnabled(false);
         btnShuffle.setEnabled(false);
 
-        new Thread(() -> {
-            List<Integer> solution = findSolution();
-            if (solution != null) {
-                for (int i = 0; i < solution.size() && isSolving; i++) {
-                    final int movePosition = solution.get(i);
-                    final int currentMove = i;
-                    try {
-                        Thread.sleep(300);
-                        handler.post(() -> {
-                            if (!isSolving) return;
-                            moveTile(movePosition);
-                            if (currentMove == solution.size() - 1) {
-                                isSolving = false;
-                                btnSolve.setEnabled(true);
-                                btnShuffle.setEnabled(true);
-                            }
-                        });
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
+        List<Integer> board = getCurrentState();
+        boolean queued = solverExecutor.submit(board, gridSize, SolverExecutor.Priority.SOLVE,
+                solution -> handler.post(() -> {
+                    if (!isSolving || !board.equals(getCurrentState())) return;
+                    if (solution == SolverExecutor.DROPPED) {
+                        showSolverBusy();
+                    } else if (solution != null) {
+                        playSolution(toTilePositions(solution), 0);
+                    } else {
+                        showNoSolution();
                     }
-                }
-            } else {
-                handler.post(() -> {
-                    Toast.makeText(MainActivity.this, 
-                        "Bu durum için çözüm bulunamadı! Tekrar karıştırıp deneyin.", Toast.LENGTH_LONG).show();
-                    isSolving = false;
-                    btnSolve.setEnabled(true);
-                    btnShuffle.setEnabled(true);
-                });
-            }
-        }).start();
+                }));
+        if (!queued) {
+            showSolverBusy();
+        }
+    }
+
+    private void playSolution(List<Integer> solution, int index) {
+        if (!isSolving) return;
+        if (index == solution.size()) {
+            stopSolving();
+            return;
+        }
+        handler.postDelayed(() -> {
+            if (!isSolving) return;
+            moveTile(solution.get(index));
+            playSolution(solution, index + 1);
+        }, 300);
+    }
+
+    private void showNoSolution() {
+        Toast.makeText(MainActivity.this,
+            "Bu durum için çözüm bulunamadı! Tekrar karıştırıp deneyin.", Toast.LENGTH_LONG).show();
+        stopSolving();
     }
 
-    private List<Integer> findSolution() {
+    private void showSolverBusy() {
+        Toast.makeText(MainActivity.this,
+            "Çözücü meşgul, lütfen tekrar deneyin.", Toast.LENGTH_SHORT).show();
+        stopSolving();
+    }
+
+    private void stopSolving() {
+        handler.removeCallbacksAndMessages(null);
+        isSolving = false;
+        btnSolve.setEnabled(true);
+        btnShuffle.setEnabled(true);
+    }
+
+    private List<Integer> getCurrentState() {
         List<Integer> currentState = new ArrayList<>();
         for (Button tile : tiles) {
             String text = tile.getText().toString();
             currentState.add(text.isEmpty() ? 0 : Integer.parseInt(text));
         }
+        return currentState;
+    }
 
-        NPuzzleSolver solver = new NPuzzleSolver(currentState, gridSize);
-        List<NPuzzleSolver.Move> solution = solver.solve();
-        
-        if (solution == null) return null;
-        
+    private List<Integer> toTilePositions(List<NPuzzleSolver.Move> solution) {
         List<Integer> moves = new ArrayList<>();
         for (NPuzzleSolver.Move move : solution) {
             // Convert position to index
@@ -221,6 +239,11 @@ public class MainActivity extends AppCompatActivity {
 
         updateTilePositions();
         emptyPosition = tiles.indexOf(tiles.get(tiles.size() - 1));
+
+        // Drop work for the old board and warm the cache for the Solve button
+        stopSolving();
+        solverExecutor.cancelStale();
+        solverExecutor.submit(getCurrentState(), gridSize, SolverExecutor.Priority.PRECOMPUTE, solution -> { });
     }
 
     private boolean isSolvable() {
@@ -269,5 +292,7 @@ public class MainActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         isSolving = false; // Stop solver when activity is destroyed
+        handler.removeCallbacksAndMessages(null);
+        solverExecutor.shutdown();
     }
 }
\ No newline at end of file
@@ -4,14 +4,26 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NPuzzleSolver {
     private int[][] grid;
     private boolean[][] fixed;
     private Map<Integer, Position> numbers;
     private List<Move> solution;
+    private Exception failure;
     private final int size;
 
+    // Only filled in when heuristic tracking is switched on
+    private static final Map<Integer, Tables> TABLES = new ConcurrentHashMap<>();
+    private final Tables tables;
+    private long hash;
+    private int manhattan;
+    private int conflicts;
+    private int[] rowConflicts;
+    private int[] columnConflicts;
+
     public static class Position {
         int x, y;
         
@@ -47,7 +59,37 @@ public class NPuzzleSolver {
         }
     }
 
+    // Zobrist keys and Manhattan distances, indexed by [tile][y * size + x]
+    private static class Tables {
+        final long[][] zobrist;
+        final int[][] manhattan;
+
+        Tables(int size) {
+            int cells = size * size;
+            Random random = new Random(cells);
+            zobrist = new long[cells][cells];
+            manhattan = new int[cells][cells];
+            for (int tile = 1; tile < cells; tile++) {
+                for (int pos = 0; pos < cells; pos++) {
+                    zobrist[tile][pos] = random.nextLong();
+                    manhattan[tile][pos] = Math.abs(pos % size - (tile - 1) % size) +
+                                           Math.abs(pos / size - (tile - 1) / size);
+                }
+            }
+        }
+    }
+
     public NPuzzleSolver(List<Integer> puzzle, int size) {
+        this(puzzle, size, false);
+    }
+
+    /**
+     * With trackHeuristics set, every blank move also updates the Zobrist hash
+     * and the Manhattan plus linear conflict heuristic. This costs a recount of
+     * the two rows or columns the tile crosses per move, so plain solves leave
+     * it off.
+     */
+    public NPuzzleSolver(List<Integer> puzzle, int size, boolean trackHeuristics) {
         this.size = size;
         this.grid = new int[size][size];
         this.fixed = new boolean[size][size];
@@ -64,19 +106,95 @@ public class NPuzzleSolver {
                 fixed[i][j] = false;
             }
         }
+
+        this.tables = trackHeuristics ? TABLES.computeIfAbsent(size, Tables::new) : null;
+        if (tables == null) return;
+
+        // The blank is implied by the other tiles, so only numbered tiles are hashed
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int num = grid[i][j];
+                if (num == 0) continue;
+                hash ^= tables.zobrist[num][i * size + j];
+                manhattan += tables.manhattan[num][i * size + j];
+            }
+        }
+
+        this.rowConflicts = new int[size];
+        this.columnConflicts = new int[size];
+        for (int line = 0; line < size; line++) {
+            rowConflicts[line] = lineConflicts(true, line);
+            columnConflicts[line] = lineConflicts(false, line);
+            conflicts += rowConflicts[line] + columnConflicts[line];
+        }
+    }
+
+    /**
+     * Zobrist key of the current board, kept up to date on every move.
+     */
+    public long getHash() {
+        checkTracking();
+        return hash;
+    }
+
+    /**
+     * Manhattan distance plus linear conflicts of the current board. For each
+     * row and column this counts the fewest tiles that must leave the line to
+     * put the rest of its goal tiles in order, and each of those costs two
+     * extra moves, so the estimate never exceeds the true distance.
+     */
+    public int getHeuristic() {
+        checkTracking();
+        return manhattan + 2 * conflicts;
+    }
+
+    int getManhattan() {
+        checkTracking();
+        return manhattan;
+    }
+
+    int getLinearConflicts() {
+        checkTracking();
+        return conflicts;
+    }
+
+    /**
+     * Slides the empty space one step in the given direction ("u", "d", "l"
+     * or "r"). Returns false if that would leave the board.
+     */
+    boolean moveEmpty(String direction) {
+        Position target = numbers.get(0).offset(direction);
+        if (!validPos(target)) return false;
+        swapE(target);
+        return true;
+    }
+
+    private void checkTracking() {
+        if (tables == null) {
+            throw new IllegalStateException("Heuristic tracking is off for this solver");
+        }
     }
 
     public List<Move> solve() {
         solution.clear();
+        failure = null;
         try {
             solveGrid(size);
         } catch (Exception e) {
             e.printStackTrace();
+            failure = e;
             return null;
         }
         return solution;
     }
 
+    /**
+     * The exception that made the last solve() return null, if any.
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
     private void solveGrid(int size) {
         if (size > 2) {
             solveRow(size);    // solve the upper row first
@@ -370,6 +488,55 @@ public class NPuzzleSolver {
         return !fixed[pos1.y][pos1.x] && !fixed[pos2.y][pos2.x];
     }
 
+    // Tiles sitting in their goal row (or column) that must leave it so the
+    // rest are in goal order: the line's goal tiles minus their longest
+    // increasing run of goal positions
+    private int lineConflicts(boolean row, int line) {
+        int[] longest = new int[size];
+        int[] goals = new int[size];
+        int tiles = 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int number = row ? grid[line][i] : grid[i][line];
+            if (number == 0) continue;
+            int goalLine = row ? (number - 1) / size : (number - 1) % size;
+            if (goalLine != line) continue;
+
+            int goal = row ? (number - 1) % size : (number - 1) / size;
+            int best = 1;
+            for (int j = 0; j < tiles; j++) {
+                if (goals[j] < goal) best = Math.max(best, longest[j] + 1);
+            }
+            goals[tiles] = goal;
+            longest[tiles++] = best;
+            kept = Math.max(kept, best);
+        }
+        return tiles - kept;
+    }
+
+    private void updateHeuristics(int number, Position from, Position to) {
+        int fromIndex = from.y * size + from.x;
+        int toIndex = to.y * size + to.x;
+        hash ^= tables.zobrist[number][fromIndex] ^ tables.zobrist[number][toIndex];
+        manhattan += tables.manhattan[number][toIndex] - tables.manhattan[number][fromIndex];
+
+        // Sliding into the blank never reorders the tile against others in the
+        // line it moves along, so only the two crossed lines need recounting
+        if (from.y == to.y) {
+            recountLine(columnConflicts, false, from.x);
+            recountLine(columnConflicts, false, to.x);
+        } else {
+            recountLine(rowConflicts, true, from.y);
+            recountLine(rowConflicts, true, to.y);
+        }
+    }
+
+    private void recountLine(int[] counts, boolean row, int line) {
+        int count = lineConflicts(row, line);
+        conflicts += count - counts[line];
+        counts[line] = count;
+    }
+
     private void swapE(Position pos) {
         swap(numbers.get(0), pos);
     }
@@ -392,6 +559,14 @@ public class NPuzzleSolver {
         grid[pos1.y][pos1.x] = num2;
         grid[pos2.y][pos2.x] = num1;
 
+        if (tables != null) {
+            if (num1 == 0) {
+                updateHeuristics(num2, pos2, pos1);
+            } else {
+                updateHeuristics(num1, pos1, pos2);
+            }
+        }
+
         solution.add(new Move(num1 == 0 ? num2 : num1,
                             num1 == 0 ? pos2 : pos1,
                             num1 == 0 ? pos1 : pos2));
@@ -0,0 +1,180 @@
+package com.alp2.slidingpuzzle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link NPuzzleSolver} jobs on a small reusable worker pool.
+ *
+ * Queued jobs are ordered by {@link Priority}, requests for a board that is
+ * already queued or running share one solve, and {@link #cancelStale()}
+ * stops results for boards that are no longer on screen from being delivered.
+ */
+public class SolverExecutor {
+    public enum Priority {
+        HINT,       // user is waiting on the next move
+        SOLVE,      // full solve started from the UI
+        PRECOMPUTE  // speculative, may be dropped at any time
+    }
+
+    public interface Callback {
+        // Called on a worker thread, or from submit() itself when the board was
+        // already solved or the job was evicted. The solution is null if the
+        // solver failed and DROPPED if the job was evicted before it ran
+        void onSolved(List<NPuzzleSolver.Move> solution);
+    }
+
+    /**
+     * Passed to callbacks whose job was evicted from a full queue by a higher
+     * priority request. Compare by identity.
+     */
+    public static final List<NPuzzleSolver.Move> DROPPED =
+            Collections.unmodifiableList(new ArrayList<>());
+
+    private static final int CACHE_SIZE = 4;
+
+    private final ThreadPoolExecutor executor;
+    private final int capacity;
+    private final Map<List<Integer>, Job> pending = new HashMap<>();
+    private final Map<List<Integer>, List<NPuzzleSolver.Move>> solved =
+            new LinkedHashMap<List<Integer>, List<NPuzzleSolver.Move>>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Integer>, List<NPuzzleSolver.Move>> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+    private long sequence = 0;
+
+    public SolverExecutor(int workers, int capacity) {
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>());
+        executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Queues a solve for the given board. Returns false if the queue is full
+     * of jobs at the same or higher priority, in which case the callback is
+     * never called. Otherwise the callback is called exactly once, unless
+     * {@link #cancelStale()} runs first.
+     */
+    public synchronized boolean submit(List<Integer> puzzle, int size, Priority priority, Callback callback) {
+        List<Integer> board = new ArrayList<>(puzzle);
+
+        List<NPuzzleSolver.Move> cached = solved.get(board);
+        if (cached != null) {
+            callback.onSolved(cached);
+            return true;
+        }
+
+        Job existing = pending.get(board);
+        if (existing != null) {
+            existing.callbacks.add(callback);
+            if (priority.ordinal() < existing.priority.ordinal() && executor.remove(existing)) {
+                existing.priority = priority;
+                executor.execute(existing);
+            }
+            return true;
+        }
+
+        if (executor.getQueue().size() >= capacity && !evictBelow(priority)) {
+            return false;
+        }
+
+        Job job = new Job(board, size, priority, sequence++);
+        job.callbacks.add(callback);
+        pending.put(board, job);
+        executor.execute(job);
+        return true;
+    }
+
+    /**
+     * Drops all queued jobs and detaches the callbacks of running ones. Call
+     * this whenever the board changes. A running job can still be joined by a
+     * later request for its board until it finishes.
+     */
+    public synchronized void cancelStale() {
+        Iterator<Job> jobs = pending.values().iterator();
+        while (jobs.hasNext()) {
+            Job job = jobs.next();
+            job.callbacks.clear();
+            if (executor.remove(job)) {
+                jobs.remove();
+            }
+        }
+    }
+
+    public synchronized void shutdown() {
+        cancelStale();
+        executor.shutdownNow();
+    }
+
+    private boolean evictBelow(Priority priority) {
+        Job lowest = null;
+        for (Runnable runnable : executor.getQueue()) {
+            Job job = (Job) runnable;
+            if (lowest == null || job.compareTo(lowest) > 0) {
+                lowest = job;
+            }
+        }
+        if (lowest == null || lowest.priority.ordinal() <= priority.ordinal()) {
+            return false;
+        }
+        if (!executor.remove(lowest)) {
+            return false;
+        }
+        pending.remove(lowest.board);
+        for (Callback callback : lowest.callbacks) {
+            callback.onSolved(DROPPED);
+        }
+        return true;
+    }
+
+    private synchronized List<Callback> finish(Job job, List<NPuzzleSolver.Move> solution) {
+        pending.remove(job.board);
+        if (solution != null) {
+            solved.put(job.board, solution);
+        }
+        return new ArrayList<>(job.callbacks);
+    }
+
+    private class Job implements Runnable, Comparable<Job> {
+        final List<Integer> board;
+        final int size;
+        final long order;
+        final List<Callback> callbacks = new ArrayList<>();
+        volatile Priority priority;
+
+        Job(List<Integer> board, int size, Priority priority, long order) {
+            this.board = board;
+            this.size = size;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            List<NPuzzleSolver.Move> solution = new NPuzzleSolver(board, size).solve();
+            if (solution != null) {
+                solution = Collections.unmodifiableList(solution);
+            }
+            for (Callback callback : finish(this, solution)) {
+                callback.onSolved(solution);
+            }
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
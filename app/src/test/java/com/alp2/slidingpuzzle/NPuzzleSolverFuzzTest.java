@@ -0,0 +1,333 @@
+package com.alp2.slidingpuzzle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Seeded fuzz test for {@link NPuzzleSolver}.
+ *
+ * Every board is derived from the seed, its size and its index alone, so any
+ * failure can be replayed exactly. Failures are counted by cause: the
+ * exception that made solve() give up, an illegal move in the returned list,
+ * a list that ends short of the goal, or a tracked hash or heuristic that
+ * disagrees with the goal board. Run with -Dfuzz.boards=1000000 for a full sweep
+ * and -Dfuzz.seed=... to explore a different part of the board space.
+ */
+public class NPuzzleSolverFuzzTest {
+    private static final int MIN_SIZE = 2;
+    private static final int MAX_SIZE = 5;
+    private static final int BOARDS = Integer.getInteger("fuzz.boards", 2000);
+    private static final long SEED = Long.getLong("fuzz.seed", 20241019L);
+
+    @Test
+    public void solver_reachesGoalOnRandomBoards() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (int size = MIN_SIZE; size <= MAX_SIZE; size++) {
+            Stats stats = fuzz(size);
+            System.out.println(stats);
+            if (stats.firstFailure != null) {
+                failures.add(String.format("%dx%d board #%d (fuzz.seed=%d) failed with %s: %s, minimized reproducer: %s",
+                        size, size, stats.firstFailureIndex, SEED, stats.firstFailureCause,
+                        Arrays.toString(stats.firstFailure),
+                        Arrays.toString(minimize(stats.firstFailure, size, stats.firstFailureCause))));
+            }
+        }
+        assertTrue(String.join("\n", failures), failures.isEmpty());
+    }
+
+    @Test
+    public void minimize_keepsBoardSolvable() {
+        Random random = new Random(SEED);
+        for (int size = MIN_SIZE; size <= MAX_SIZE; size++) {
+            int[] board = randomBoard(size, random);
+            // Treat every board as failing so minimization runs all the way down
+            int[] minimized = minimize(board, size, candidate -> true);
+            assertTrue(isSolvable(minimized, size));
+            assertEquals(0, misplaced(minimized, size));
+        }
+    }
+
+    private static Stats fuzz(int size) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Stats>> parts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            parts.add(pool.submit(() -> {
+                Stats stats = new Stats(size);
+                for (int i = offset; i < BOARDS; i += threads) {
+                    int[] board = boardAt(size, i);
+                    NPuzzleSolver solver = new NPuzzleSolver(toList(board), size);
+                    long start = System.nanoTime();
+                    List<NPuzzleSolver.Move> moves = solver.solve();
+                    long elapsed = System.nanoTime() - start;
+                    String cause = moves == null ? exceptionCause(solver) : replayCause(board, moves, size);
+                    if (cause == null) {
+                        cause = trackingCause(board, size);
+                    }
+                    stats.record(i, board, cause, moves == null ? 0 : moves.size(), elapsed);
+                }
+                return stats;
+            }));
+        }
+        pool.shutdown();
+
+        Stats total = new Stats(size);
+        for (Future<Stats> part : parts) {
+            total.merge(part.get());
+        }
+        return total;
+    }
+
+    private static int[] boardAt(int size, int index) {
+        return randomBoard(size, new Random(SEED * 31 + size * 1_000_003L + index));
+    }
+
+    private static int[] randomBoard(int size, Random random) {
+        List<Integer> tiles = new ArrayList<>();
+        for (int i = 0; i < size * size; i++) {
+            tiles.add(i);
+        }
+        Collections.shuffle(tiles, random);
+
+        int[] board = new int[tiles.size()];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = tiles.get(i);
+        }
+        if (!isSolvable(board, size)) {
+            // Swapping two numbered tiles flips the parity
+            int a = board[0] == 0 ? 2 : 0;
+            int b = board[1] == 0 ? 2 : 1;
+            int tmp = board[a];
+            board[a] = board[b];
+            board[b] = tmp;
+        }
+        return board;
+    }
+
+    private static boolean isSolvable(int[] board, int size) {
+        int inversions = 0;
+        int blankRow = 0;
+        for (int i = 0; i < board.length; i++) {
+            if (board[i] == 0) {
+                blankRow = i / size;
+                continue;
+            }
+            for (int j = i + 1; j < board.length; j++) {
+                if (board[j] != 0 && board[i] > board[j]) inversions++;
+            }
+        }
+        if (size % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        return (inversions + size - blankRow) % 2 == 1;
+    }
+
+    private static String exceptionCause(NPuzzleSolver solver) {
+        Exception failure = solver.getFailure();
+        if (failure == null) return "exception: unknown";
+        String message = failure.getMessage();
+        return "exception: " + failure.getClass().getSimpleName() + (message == null ? "" : ": " + message);
+    }
+
+    private static String replayCause(int[] board, List<NPuzzleSolver.Move> moves, int size) {
+        int[] state = board.clone();
+        for (NPuzzleSolver.Move move : moves) {
+            int from = move.from.y * size + move.from.x;
+            int to = move.to.y * size + move.to.x;
+            boolean adjacent = Math.abs(move.from.x - move.to.x) + Math.abs(move.from.y - move.to.y) == 1;
+            if (!adjacent || state[from] != move.number || state[to] != 0) {
+                return "illegal move";
+            }
+            state[to] = move.number;
+            state[from] = 0;
+        }
+        return misplaced(state, size) == 0 && state[state.length - 1] == 0 ? null : "did not reach goal";
+    }
+
+    private static String trackingCause(int[] board, int size) {
+        NPuzzleSolver solver = new NPuzzleSolver(toList(board), size, true);
+        long goalHash = new NPuzzleSolver(toList(boardAtGoal(size)), size, true).getHash();
+        if (solver.solve() == null) {
+            return exceptionCause(solver);
+        }
+        return solver.getHeuristic() == 0 && solver.getHash() == goalHash ? null : "tracked heuristic drift";
+    }
+
+    private static String failureCause(int[] board, int size) {
+        NPuzzleSolver solver = new NPuzzleSolver(toList(board), size);
+        List<NPuzzleSolver.Move> moves = solver.solve();
+        String cause = moves == null ? exceptionCause(solver) : replayCause(board, moves, size);
+        return cause != null ? cause : trackingCause(board, size);
+    }
+
+    private static int[] minimize(int[] board, int size, String cause) {
+        return minimize(board, size, candidate -> cause.equals(failureCause(candidate, size)));
+    }
+
+    private static int[] boardAtGoal(int size) {
+        int[] board = new int[size * size];
+        for (int i = 0; i < board.length - 1; i++) {
+            board[i] = i + 1;
+        }
+        return board;
+    }
+
+    /**
+     * Greedily moves the board closer to the goal while it keeps failing the
+     * same way. Only
+     * 3-cycles of numbered tiles and blank slides are tried, both of which keep
+     * the board solvable, so the result is always a valid reproducer.
+     */
+    private static int[] minimize(int[] board, int size, FailurePredicate failing) {
+        int[] current = board.clone();
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int tile = 1; tile < current.length && !progress; tile++) {
+                int from = indexOf(current, tile);
+                int home = tile - 1;
+                if (from == home || current[home] == 0) continue;
+                for (int third = 0; third < current.length && !progress; third++) {
+                    if (third == from || third == home || current[third] == 0) continue;
+                    int[] candidate = current.clone();
+                    candidate[home] = tile;
+                    candidate[third] = current[home];
+                    candidate[from] = current[third];
+                    if (closer(candidate, current, size) && failing.test(candidate)) {
+                        current = candidate;
+                        progress = true;
+                    }
+                }
+            }
+            if (!progress) {
+                int blank = indexOf(current, 0);
+                int next = blank % size < size - 1 ? blank + 1 : blank + size;
+                if (next < current.length) {
+                    int[] candidate = current.clone();
+                    candidate[blank] = current[next];
+                    candidate[next] = 0;
+                    if (closer(candidate, current, size) && failing.test(candidate)) {
+                        current = candidate;
+                        progress = true;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private static boolean closer(int[] candidate, int[] current, int size) {
+        return distanceFromGoal(candidate, size) < distanceFromGoal(current, size);
+    }
+
+    // Blank distance to its home corner first, misplaced tiles second
+    private static int distanceFromGoal(int[] board, int size) {
+        int blank = indexOf(board, 0);
+        int blankDistance = (size - 1 - blank % size) + (size - 1 - blank / size);
+        return blankDistance * board.length + misplaced(board, size);
+    }
+
+    private static int misplaced(int[] board, int size) {
+        int count = 0;
+        for (int i = 0; i < board.length; i++) {
+            if (board[i] != 0 && board[i] != i + 1) count++;
+        }
+        return count;
+    }
+
+    private static int indexOf(int[] board, int tile) {
+        for (int i = 0; i < board.length; i++) {
+            if (board[i] == tile) return i;
+        }
+        return -1;
+    }
+
+    private static List<Integer> toList(int[] board) {
+        List<Integer> list = new ArrayList<>();
+        for (int tile : board) {
+            list.add(tile);
+        }
+        return list;
+    }
+
+    private interface FailurePredicate {
+        boolean test(int[] board);
+    }
+
+    private static class Stats {
+        final int size;
+        int boards;
+        int failed;
+        int firstFailureIndex = -1;
+        int[] firstFailure;
+        String firstFailureCause;
+        final Map<String, Integer> causes = new TreeMap<>();
+        final List<Integer> moveCounts = new ArrayList<>();
+        final List<Long> solveTimes = new ArrayList<>();
+
+        Stats(int size) {
+            this.size = size;
+        }
+
+        void record(int index, int[] board, String cause, int moves, long nanos) {
+            boards++;
+            if (cause == null) {
+                moveCounts.add(moves);
+            } else {
+                failed++;
+                causes.merge(cause, 1, Integer::sum);
+                keepLowestFailure(index, board, cause);
+            }
+            solveTimes.add(nanos);
+        }
+
+        void merge(Stats other) {
+            boards += other.boards;
+            failed += other.failed;
+            other.causes.forEach((cause, count) -> causes.merge(cause, count, Integer::sum));
+            if (other.firstFailure != null) {
+                keepLowestFailure(other.firstFailureIndex, other.firstFailure, other.firstFailureCause);
+            }
+            moveCounts.addAll(other.moveCounts);
+            solveTimes.addAll(other.solveTimes);
+        }
+
+        // The lowest index does not depend on how boards were split across threads
+        private void keepLowestFailure(int index, int[] board, String cause) {
+            if (firstFailure == null || index < firstFailureIndex) {
+                firstFailureIndex = index;
+                firstFailure = board;
+                firstFailureCause = cause;
+            }
+        }
+
+        @Override
+        public String toString() {
+            Collections.sort(moveCounts);
+            Collections.sort(solveTimes);
+            return String.format("%dx%d: %d boards, failure rate %.4f%% %s, moves p50/p99/max %s/%s/%s, solve us p50/p99/max %s/%s/%s",
+                    size, size, boards, boards == 0 ? 0.0 : 100.0 * failed / boards, causes,
+                    percentile(moveCounts, 50), percentile(moveCounts, 99), percentile(moveCounts, 100),
+                    percentile(solveTimes, 50) / 1000, percentile(solveTimes, 99) / 1000, percentile(solveTimes, 100) / 1000);
+        }
+
+        private static <T extends Number> long percentile(List<T> sorted, int percent) {
+            if (sorted.isEmpty()) return 0;
+            int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)).longValue();
+        }
+    }
+}
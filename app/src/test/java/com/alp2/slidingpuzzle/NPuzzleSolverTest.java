@@ -0,0 +1,158 @@
+package com.alp2.slidingpuzzle;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NPuzzleSolverTest {
+    private static final String[] DIRECTIONS = {"u", "d", "l", "r"};
+
+    @Test
+    public void incrementalValues_matchRecountAfterMoves() {
+        Random random = new Random(42);
+        for (int size = 2; size <= 6; size++) {
+            List<Integer> board = goal(size);
+            NPuzzleSolver solver = new NPuzzleSolver(board, size, true);
+            int blank = board.size() - 1;
+
+            for (int step = 0; step < 5000; step++) {
+                String direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                if (!solver.moveEmpty(direction)) continue;
+                blank = slide(board, blank, direction, size);
+
+                assertEquals(manhattan(board, size), solver.getManhattan());
+                assertEquals(linearConflicts(board, size), solver.getLinearConflicts());
+                assertEquals(new NPuzzleSolver(board, size, true).getHash(), solver.getHash());
+            }
+        }
+    }
+
+    @Test
+    public void solvedBoard_hasGoalHashAndZeroHeuristic() {
+        Random random = new Random(7);
+        for (int size = 2; size <= 5; size++) {
+            long goalHash = new NPuzzleSolver(goal(size), size, true).getHash();
+            for (int round = 0; round < 50; round++) {
+                List<Integer> board = goal(size);
+                int blank = board.size() - 1;
+                for (int step = 0; step < 200; step++) {
+                    blank = slide(board, blank, DIRECTIONS[random.nextInt(DIRECTIONS.length)], size);
+                }
+
+                NPuzzleSolver solver = new NPuzzleSolver(board, size, true);
+                assertNotNull(solver.solve());
+                assertEquals(0, solver.getHeuristic());
+                assertEquals(goalHash, solver.getHash());
+            }
+        }
+    }
+
+    @Test
+    public void heuristic_neverExceedsTrueDistance() {
+        for (int size = 2; size <= 3; size++) {
+            // Every solvable board is reachable from the goal, and moves are reversible
+            Map<List<Integer>, Integer> distances = new HashMap<>();
+            Queue<List<Integer>> queue = new ArrayDeque<>();
+            distances.put(goal(size), 0);
+            queue.add(goal(size));
+            while (!queue.isEmpty()) {
+                List<Integer> board = queue.poll();
+                int distance = distances.get(board);
+                assertTrue(board + " at distance " + distance,
+                        new NPuzzleSolver(board, size, true).getHeuristic() <= distance);
+
+                for (String direction : DIRECTIONS) {
+                    List<Integer> next = new ArrayList<>(board);
+                    if (slide(next, next.indexOf(0), direction, size) == board.indexOf(0)) continue;
+                    if (distances.putIfAbsent(next, distance + 1) == null) {
+                        queue.add(next);
+                    }
+                }
+            }
+            assertEquals(size == 2 ? 12 : 181440, distances.size());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void untrackedSolver_rejectsHeuristicQueries() {
+        new NPuzzleSolver(goal(3), 3).getHeuristic();
+    }
+
+    private static List<Integer> goal(int size) {
+        List<Integer> board = new ArrayList<>();
+        for (int i = 1; i < size * size; i++) {
+            board.add(i);
+        }
+        board.add(0);
+        return board;
+    }
+
+    // Mirrors NPuzzleSolver.moveEmpty on a flat board, returns the new blank index
+    private static int slide(List<Integer> board, int blank, String direction, int size) {
+        int x = blank % size;
+        int y = blank / size;
+        switch (direction) {
+            case "u": y--; break;
+            case "d": y++; break;
+            case "l": x--; break;
+            default: x++; break;
+        }
+        if (x < 0 || x >= size || y < 0 || y >= size) return blank;
+
+        int next = y * size + x;
+        board.set(blank, board.get(next));
+        board.set(next, 0);
+        return next;
+    }
+
+    private static int manhattan(List<Integer> board, int size) {
+        int total = 0;
+        for (int i = 0; i < board.size(); i++) {
+            int tile = board.get(i);
+            if (tile == 0) continue;
+            total += Math.abs(i % size - (tile - 1) % size) + Math.abs(i / size - (tile - 1) / size);
+        }
+        return total;
+    }
+
+    // Per row and column, the fewest goal tiles to take out so the rest are in goal order
+    private static int linearConflicts(List<Integer> board, int size) {
+        int count = 0;
+        for (int line = 0; line < size; line++) {
+            List<Integer> rowGoals = new ArrayList<>();
+            List<Integer> columnGoals = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int inRow = board.get(line * size + i);
+                if (inRow != 0 && (inRow - 1) / size == line) rowGoals.add((inRow - 1) % size);
+                int inColumn = board.get(i * size + line);
+                if (inColumn != 0 && (inColumn - 1) % size == line) columnGoals.add((inColumn - 1) / size);
+            }
+            count += fewestRemovals(rowGoals) + fewestRemovals(columnGoals);
+        }
+        return count;
+    }
+
+    // Tries every subset of tiles to keep
+    private static int fewestRemovals(List<Integer> goals) {
+        int fewest = goals.size();
+        for (int keep = 0; keep < 1 << goals.size(); keep++) {
+            int last = -1;
+            boolean ordered = true;
+            for (int i = 0; i < goals.size() && ordered; i++) {
+                if ((keep & 1 << i) == 0) continue;
+                ordered = goals.get(i) > last;
+                last = goals.get(i);
+            }
+            if (ordered) fewest = Math.min(fewest, goals.size() - Integer.bitCount(keep));
+        }
+        return fewest;
+    }
+}
@@ -0,0 +1,169 @@
+package com.alp2.slidingpuzzle;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SolverExecutorTest {
+    private static final List<Integer> BLOCKER = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 0, 8);
+    private static final List<Integer> FIRST = Arrays.asList(1, 2, 3, 4, 5, 6, 0, 7, 8);
+    private static final List<Integer> SECOND = Arrays.asList(1, 2, 3, 4, 0, 6, 7, 5, 8);
+    private static final List<Integer> THIRD = Arrays.asList(1, 2, 3, 0, 5, 6, 4, 7, 8);
+    private static final List<Integer> SMALL = Arrays.asList(1, 2, 0, 3);
+
+    private SolverExecutor executor;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new SolverExecutor(1, 2);
+        release = new CountDownLatch(1);
+
+        // Park the only worker inside a callback so later jobs stay queued
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(BLOCKER, 3, SolverExecutor.Priority.SOLVE, solution -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void queuedJobs_runInPriorityOrder() throws Exception {
+        List<List<Integer>> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+        executor.submit(FIRST, 3, SolverExecutor.Priority.PRECOMPUTE, solution -> {
+            order.add(FIRST);
+            done.countDown();
+        });
+        executor.submit(SECOND, 3, SolverExecutor.Priority.HINT, solution -> {
+            order.add(SECOND);
+            done.countDown();
+        });
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(SECOND, FIRST), order);
+    }
+
+    @Test
+    public void sameBoard_isSolvedOnce() throws Exception {
+        List<List<NPuzzleSolver.Move>> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+        assertTrue(executor.submit(FIRST, 3, SolverExecutor.Priority.PRECOMPUTE, solution -> {
+            results.add(solution);
+            done.countDown();
+        }));
+        assertTrue(executor.submit(new ArrayList<>(FIRST), 3, SolverExecutor.Priority.SOLVE, solution -> {
+            results.add(solution);
+            done.countDown();
+        }));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotNull(results.get(0));
+        assertSame(results.get(0), results.get(1));
+    }
+
+    @Test
+    public void cancelStale_dropsQueuedJobs() throws Exception {
+        CountDownLatch stale = new CountDownLatch(1);
+        executor.submit(FIRST, 3, SolverExecutor.Priority.SOLVE, solution -> stale.countDown());
+        executor.cancelStale();
+
+        CountDownLatch fresh = new CountDownLatch(1);
+        executor.submit(SECOND, 3, SolverExecutor.Priority.PRECOMPUTE, solution -> fresh.countDown());
+
+        release.countDown();
+        assertTrue(fresh.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stale.getCount());
+    }
+
+    @Test
+    public void fullQueue_evictsLowerPriorityOnly() throws Exception {
+        List<List<NPuzzleSolver.Move>> evicted = Collections.synchronizedList(new ArrayList<>());
+        assertTrue(executor.submit(FIRST, 3, SolverExecutor.Priority.PRECOMPUTE, evicted::add));
+        assertTrue(executor.submit(SECOND, 3, SolverExecutor.Priority.SOLVE, solution -> { }));
+        assertTrue(executor.submit(THIRD, 3, SolverExecutor.Priority.HINT, solution -> { }));
+        assertFalse(executor.submit(SMALL, 2, SolverExecutor.Priority.PRECOMPUTE, solution -> { }));
+
+        CountDownLatch drained = new CountDownLatch(1);
+        release.countDown();
+        executor.submit(THIRD, 3, SolverExecutor.Priority.PRECOMPUTE, solution -> drained.countDown());
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        // The evicted job reports the drop once and is never solved
+        assertEquals(1, evicted.size());
+        assertSame(SolverExecutor.DROPPED, evicted.get(0));
+    }
+
+    @Test
+    public void hintEvictingSolve_stillCallsSolveBack() throws Exception {
+        List<List<NPuzzleSolver.Move>> results = Collections.synchronizedList(new ArrayList<>());
+        assertTrue(executor.submit(FIRST, 3, SolverExecutor.Priority.SOLVE, solution -> { }));
+        assertTrue(executor.submit(SECOND, 3, SolverExecutor.Priority.SOLVE, results::add));
+        assertTrue(executor.submit(THIRD, 3, SolverExecutor.Priority.HINT, solution -> { }));
+
+        assertEquals(1, results.size());
+        assertSame(SolverExecutor.DROPPED, results.get(0));
+    }
+
+    @Test
+    public void coalescedRequest_raisesQueuedPriority() throws Exception {
+        List<List<Integer>> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        executor.submit(FIRST, 3, SolverExecutor.Priority.PRECOMPUTE, solution -> {
+            order.add(FIRST);
+            done.countDown();
+        });
+        executor.submit(SECOND, 3, SolverExecutor.Priority.SOLVE, solution -> {
+            order.add(SECOND);
+            done.countDown();
+        });
+        // Joining FIRST as a hint should move it ahead of SECOND
+        executor.submit(FIRST, 3, SolverExecutor.Priority.HINT, solution -> done.countDown());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(FIRST, SECOND), order);
+    }
+
+    @Test
+    public void solvedBoard_isServedFromCache() throws Exception {
+        release.countDown();
+        List<List<NPuzzleSolver.Move>> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch solved = new CountDownLatch(1);
+        executor.submit(FIRST, 3, SolverExecutor.Priority.SOLVE, solution -> {
+            results.add(solution);
+            solved.countDown();
+        });
+        assertTrue(solved.await(5, TimeUnit.SECONDS));
+
+        // A cache hit is delivered before submit() returns
+        assertTrue(executor.submit(FIRST, 3, SolverExecutor.Priority.HINT, results::add));
+        assertEquals(2, results.size());
+        assertSame(results.get(0), results.get(1));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}